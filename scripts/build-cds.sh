@@ -0,0 +1,53 @@
+#!/usr/bin/env bash
+# Builds build/weatherstats.jar and an AppCDS archive (build/weatherstats.jsa) of the
+# project's classes for fast JVM startup in short-lived CLI runs.
+#
+# Usage: scripts/build-cds.sh [data-file]
+#
+# The archive is dumped at the end of a training run of Main that exercises every query
+# type. A small generated data file is used unless one is given. Launch with:
+#   java -Xms512m -XX:SharedArchiveFile=build/weatherstats.jsa -cp build/weatherstats.jar \
+#       Main <data-file> <query-file> --archive <data-file>.archive
+# The archive must be rebuilt whenever the classes or the JDK change; the JVM silently
+# falls back to normal class loading if it does not match.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+BUILD=build
+rm -rf "$BUILD/classes"
+mkdir -p "$BUILD/classes"
+
+# AppCDS only archives classes loaded from JAR files, not from class directories.
+javac -d "$BUILD/classes" $(ls src/*.java | grep -v 'Test\.java$')
+jar cf "$BUILD/weatherstats.jar" -C "$BUILD/classes" .
+
+TRAINING="$BUILD/training"
+mkdir -p "$TRAINING"
+DATA="${1:-}"
+if [ -z "$DATA" ]; then
+    DATA="$TRAINING/sample.csv"
+    cat > "$DATA" <<'CSV'
+Region,Country,State,City,Month,Day,Year,AvgTemperature
+North America,US,Maine,Caribou,1,2,1995,10.0
+North America,US,Maine,Caribou,1,2,1996,12.0
+Europe,France,,Paris,1,2,1995,40.0
+Europe,France,,Paris,1,2,1996,-99.0
+CSV
+fi
+cat > "$TRAINING/queries.txt" <<'QUERIES'
+stats,US,Maine,Caribou
+stats,France,,Paris
+date,1,2,France,,Paris
+slope,1,2,US,Maine,Caribou
+QUERIES
+
+# Write the warm archive first, so that the training runs load through it like a warm cron run.
+rm -f "$TRAINING/data.archive"
+java -cp "$BUILD/weatherstats.jar" StartupBenchmark "$DATA" US Maine Caribou "$TRAINING/data.archive" > /dev/null
+java -XX:ArchiveClassesAtExit="$BUILD/weatherstats.jsa" -cp "$BUILD/weatherstats.jar" \
+    Main "$DATA" "$TRAINING/queries.txt" --threads 2 --format json --output "$TRAINING/results.json" \
+    --archive "$TRAINING/data.archive" 2>/dev/null
+java -XX:ArchiveClassesAtExit="$BUILD/weatherstats-benchmark.jsa" -cp "$BUILD/weatherstats.jar" \
+    StartupBenchmark "$DATA" US Maine Caribou "$TRAINING/data.archive" > /dev/null
+
+echo "Wrote $BUILD/weatherstats.jar, $BUILD/weatherstats.jsa and $BUILD/weatherstats-benchmark.jsa"
@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Compares cold-JVM time-to-first-answer for getCityListStats when parsing the data file,
+# with the AppCDS archive built by scripts/build-cds.sh, and with the AppCDS archive plus a
+# warm archive of the parsed readings and city index. Each run starts a fresh JVM.
+#
+# Usage: scripts/startup-benchmark.sh <data-file> <country> <state> <city> [runs]
+set -euo pipefail
+
+if [ $# -lt 4 ]; then
+    echo "Usage: $0 <data-file> <country> <state> <city> [runs]" >&2
+    exit 2
+fi
+DATA="$1"; COUNTRY="$2"; STATE="$3"; CITY="$4"; RUNS="${5:-5}"
+
+cd "$(dirname "$0")/.."
+JAR=build/weatherstats.jar
+CDS_ARCHIVE=build/weatherstats-benchmark.jsa
+WARM_ARCHIVE=build/benchmark.archive
+if [ ! -f "$JAR" ] || [ ! -f "$CDS_ARCHIVE" ]; then
+    echo "Run scripts/build-cds.sh first." >&2
+    exit 1
+fi
+
+# Usage: run <label> <warm-archive-or-empty> [jvm-options...]
+run() {
+    local label="$1"; shift
+    local archive="$1"; shift
+    local total=0
+    for _ in $(seq "$RUNS"); do
+        line=$(java "$@" -cp "$JAR" StartupBenchmark "$DATA" "$COUNTRY" "$STATE" "$CITY" $archive 2>/dev/null)
+        echo "$label: $line"
+        total=$(awk -v t="$total" -v l="$line" 'BEGIN {
+            match(l, /time-to-first-answer-ms=[0-9.]+/); print t + substr(l, RSTART + 24, RLENGTH - 24) }')
+    done
+    awk -v t="$total" -v n="$RUNS" -v label="$label" 'BEGIN { printf "%s: mean time-to-first-answer %.3f ms over %d runs\n", label, t / n, n }'
+}
+
+run "default" "" -Xshare:auto
+run "appcds" "" -XX:SharedArchiveFile="$CDS_ARCHIVE" -Xshare:auto
+
+# Build the warm archive for this data file once, outside the timed runs.
+rm -f "$WARM_ARCHIVE"
+java -cp "$JAR" StartupBenchmark "$DATA" "$COUNTRY" "$STATE" "$CITY" "$WARM_ARCHIVE" > /dev/null 2>&1
+run "appcds+warm-archive" "$WARM_ARCHIVE" -XX:SharedArchiveFile="$CDS_ARCHIVE" -Xshare:auto
+# Sizing the initial heap for the readings avoids repeated collections while the heap grows.
+run "appcds+warm-archive+Xms512m" "$WARM_ARCHIVE" -Xms512m -XX:SharedArchiveFile="$CDS_ARCHIVE" -Xshare:auto
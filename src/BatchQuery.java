@@ -0,0 +1,163 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Represents a single line of a batch query file. Each query is written in the same
+ * comma-separated style as the weather data file, with the query type first:
+ * <pre>
+ *     stats,&lt;country&gt;,&lt;state&gt;,&lt;city&gt;
+ *     date,&lt;month&gt;,&lt;day&gt;,&lt;country&gt;,&lt;state&gt;,&lt;city&gt;
+ *     slope,&lt;month&gt;,&lt;day&gt;,&lt;country&gt;,&lt;state&gt;,&lt;city&gt;
+ * </pre>
+ * The state may be left empty for cities outside of the US. Date and slope queries are
+ * limited to one city, since {@link GlobalWeatherManager#getReadings(int, int, int, int)}
+ * keeps only one reading per year and so cannot combine several cities.
+ *
+ * @param lineNumber the line of the query file this query was read from.
+ * @param text       the query text as written in the query file.
+ * @param kind       the kind of query.
+ * @param arguments  the arguments following the query type; unmodifiable.
+ */
+public record BatchQuery(int lineNumber, String text, Kind kind, List<String> arguments) {
+
+    /**
+     * The kinds of queries supported in a batch query file.
+     */
+    public enum Kind { STATS, DATE, SLOPE }
+
+    /**
+     * Parses a single line of a query file.
+     *
+     * @param lineNumber the line number of the query, used when reporting results.
+     * @param line       the query text; must not be null or blank.
+     * @return the parsed query.
+     * @throws IllegalArgumentException if the query type is unknown or has the wrong number of arguments.
+     */
+    public static BatchQuery parse(int lineNumber, String line) {
+        String text = line.trim();
+        String[] parts = text.split(",", -1);
+        List<String> arguments = List.of(parts).subList(1, parts.length);
+        Kind kind;
+        try {
+            kind = Kind.valueOf(parts[0].trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown query type on line " + lineNumber + ": " + parts[0]);
+        }
+
+        boolean validCount = switch (kind) {
+            case STATS -> arguments.size() == 3;
+            case DATE, SLOPE -> arguments.size() == 5;
+        };
+        if (!validCount) {
+            throw new IllegalArgumentException("Wrong number of arguments on line " + lineNumber + ": " + text);
+        }
+        return new BatchQuery(lineNumber, text, kind, List.copyOf(arguments));
+    }
+
+    /**
+     * Runs this query against the given manager. The manager is only read from, so queries
+     * may be executed concurrently against the same instance.
+     *
+     * @param manager the manager holding the loaded weather data.
+     * @return a one-line description of the result, or {@code null} if the requested city was not found.
+     * @throws IllegalArgumentException if an argument is not a valid number, month or day.
+     */
+    public String execute(GlobalWeatherManager manager) {
+        return switch (kind) {
+            case STATS -> executeStats(manager);
+            case DATE -> executeDate(manager);
+            case SLOPE -> executeSlope(manager);
+        };
+    }
+
+    /**
+     * Runs a city stats query.
+     *
+     * @param manager the manager holding the loaded weather data.
+     * @return the starting index, count and sorted years for the city, or {@code null} if it was not found.
+     */
+    private String executeStats(GlobalWeatherManager manager) {
+        CityListStats stats = cityStats(manager, 0);
+        if (stats == null) {
+            return null;
+        }
+        return "startingIndex=" + stats.startingIndex()
+                + ";count=" + stats.count()
+                + ";years=" + Arrays.stream(stats.years()).sorted()
+                        .mapToObj(String::valueOf)
+                        .collect(Collectors.joining(" "));
+    }
+
+    /**
+     * Runs a date filter query for a single city.
+     *
+     * @param manager the manager holding the loaded weather data.
+     * @return the year and average temperature of each reading on that day, or {@code null} if the city was not found.
+     */
+    private String executeDate(GlobalWeatherManager manager) {
+        WeatherReading[] readings = cityReadingsOnDay(manager);
+        if (readings == null) {
+            return null;
+        }
+        return Arrays.stream(readings)
+                .map(reading -> reading.year() + ":" + reading.avgTemperature())
+                .collect(Collectors.joining(";"));
+    }
+
+    /**
+     * Runs a temperature slope query for a single city.
+     *
+     * @param manager the manager holding the loaded weather data.
+     * @return the slope of the best-fit line, or {@code null} if the city was not found.
+     */
+    private String executeSlope(GlobalWeatherManager manager) {
+        WeatherReading[] readings = cityReadingsOnDay(manager);
+        if (readings == null) {
+            return null;
+        }
+        return String.valueOf(manager.getTemperatureLinearRegressionSlope(readings));
+    }
+
+    /**
+     * Retrieves the readings for the month, day and city given as arguments, one per year.
+     *
+     * @param manager the manager holding the loaded weather data.
+     * @return the matching readings, or {@code null} if the city was not found.
+     */
+    private WeatherReading[] cityReadingsOnDay(GlobalWeatherManager manager) {
+        int month = parseInt(arguments.get(0));
+        int day = parseInt(arguments.get(1));
+        CityListStats stats = cityStats(manager, 2);
+        if (stats == null) {
+            return null;
+        }
+        return manager.getReadings(stats.startingIndex(), stats.count(), month, day);
+    }
+
+    /**
+     * Looks up the city whose country, state and city arguments start at the given position.
+     *
+     * @param manager the manager holding the loaded weather data.
+     * @param first   the position of the country argument.
+     * @return the stats for the city, or {@code null} if it was not found.
+     */
+    private CityListStats cityStats(GlobalWeatherManager manager, int first) {
+        return manager.getCityListStats(arguments.get(first).trim(), arguments.get(first + 1), arguments.get(first + 2));
+    }
+
+    /**
+     * Parses a numeric query argument.
+     *
+     * @param value the argument text.
+     * @return the parsed value.
+     * @throws IllegalArgumentException if the argument is not a whole number.
+     */
+    private int parseInt(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number on line " + lineNumber + ": " + value);
+        }
+    }
+}
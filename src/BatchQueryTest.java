@@ -0,0 +1,89 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.*;
+import java.nio.file.*;
+import java.util.List;
+
+/**
+ * Unit tests for the {@code BatchQuery} class.
+ * This class verifies that batch query lines are parsed correctly and produce the
+ * expected results when run against a GlobalWeatherManager.
+ */
+public class BatchQueryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private GlobalWeatherManager manager;
+
+    /**
+     * Prepares the testing environment before each test.
+     * Initializes the GlobalWeatherManager with the shared mock data, written to a temporary directory.
+     *
+     * @throws IOException if an error occurs during file creation.
+     */
+    @BeforeEach
+    void initialize() throws IOException {
+        manager = BatchTestData.createManager(tempDir);
+    }
+
+    /**
+     * Validates that a city stats query reports the starting index, count and sorted years.
+     */
+    @Test
+    void testStatsQuery() {
+        BatchQuery query = BatchQuery.parse(1, "stats,Country1,State1,City1");
+        assertEquals(BatchQuery.Kind.STATS, query.kind());
+        assertEquals("startingIndex=0;count=2;years=2020 2021", query.execute(manager));
+    }
+
+    /**
+     * Ensures that a stats query for an unknown city reports no result rather than failing.
+     */
+    @Test
+    void testStatsQueryNotFound() {
+        assertNull(BatchQuery.parse(1, "stats,Country9,,City9").execute(manager), "Unknown cities should return null.");
+    }
+
+    /**
+     * Tests that a date filter query returns one reading per year for the requested day and city.
+     */
+    @Test
+    void testDateQuery() {
+        assertEquals("2020:10.0;2021:20.0", BatchQuery.parse(1, "date,1,15,Country1,State1,City1").execute(manager));
+        assertEquals("2020:-99.0", BatchQuery.parse(1, "date,1,15,Country2,,City2").execute(manager));
+        assertNull(BatchQuery.parse(1, "date,1,15,Country9,,City9").execute(manager), "Unknown cities should return null.");
+    }
+
+    /**
+     * Validates that a slope query restricted to a city only uses that city's readings.
+     */
+    @Test
+    void testCitySlopeQuery() {
+        assertEquals("10.0", BatchQuery.parse(1, "slope,1,15,Country1,State1,City1").execute(manager));
+    }
+
+    /**
+     * Validates that parsed queries compare by value and do not expose mutable arguments.
+     */
+    @Test
+    void testQueryValueSemantics() {
+        BatchQuery query = BatchQuery.parse(1, "stats,Country1,State1,City1");
+        assertEquals(BatchQuery.parse(1, "stats,Country1,State1,City1"), query, "Queries with the same text should be equal.");
+        assertEquals(List.of("Country1", "State1", "City1"), query.arguments());
+        assertThrows(UnsupportedOperationException.class, () -> query.arguments().set(0, "Country2"), "Arguments should be unmodifiable.");
+    }
+
+    /**
+     * Confirms that malformed queries are rejected when parsed or run.
+     */
+    @Test
+    void testInvalidQueries() {
+        assertThrows(IllegalArgumentException.class, () -> BatchQuery.parse(1, "average,1,15"), "Unknown query types should be rejected.");
+        assertThrows(IllegalArgumentException.class, () -> BatchQuery.parse(1, "date,1,15"), "Date queries without a city should be rejected.");
+        assertThrows(IllegalArgumentException.class, () -> BatchQuery.parse(1, "slope,1,15"), "Slope queries without a city should be rejected.");
+        assertThrows(IllegalArgumentException.class, () -> BatchQuery.parse(1, "date,one,15,Country1,State1,City1").execute(manager), "Non-numeric arguments should be rejected.");
+    }
+
+}
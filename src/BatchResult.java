@@ -0,0 +1,41 @@
+/**
+ * Represents the outcome of running a single line of a batch query file.
+ *
+ * @param lineNumber the line of the query file the query was read from.
+ * @param query      the query text as written in the query file.
+ * @param status     {@code ok}, {@code not_found} or {@code error}.
+ * @param result     the query result, or the error message if the query could not be parsed or failed.
+ * @param nanos      time spent parsing and running the query, in nanoseconds.
+ */
+public record BatchResult(int lineNumber, String query, String status, String result, long nanos) {
+
+    /**
+     * Parses and runs a query, capturing its result or error and the time it took. A line
+     * that cannot be parsed gives an {@code error} result rather than stopping the run.
+     *
+     * @param lineNumber the line of the query file the query was read from.
+     * @param line       the query text.
+     * @param manager    the manager holding the loaded weather data.
+     * @return the outcome of the query.
+     */
+    public static BatchResult run(int lineNumber, String line, GlobalWeatherManager manager) {
+        long start = System.nanoTime();
+        String text = line.trim();
+        try {
+            String result = BatchQuery.parse(lineNumber, text).execute(manager);
+            String status = result == null ? "not_found" : "ok";
+            return new BatchResult(lineNumber, text, status, result == null ? "" : result, System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            return new BatchResult(lineNumber, text, "error", String.valueOf(e.getMessage()), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns whether the query failed.
+     *
+     * @return {@code true} if the status is {@code error}.
+     */
+    public boolean isError() {
+        return status.equals("error");
+    }
+}
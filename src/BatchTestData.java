@@ -0,0 +1,36 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Mock weather data shared by the batch runner tests. City1 has two readings on 1/15,
+ * giving a temperature slope of 10.0, and City2 has no state and a missing temperature.
+ */
+final class BatchTestData {
+
+    /**
+     * Mock weather data in the format of the weather data file.
+     */
+    static final String CSV =
+            """
+                    Region,Country,State,City,Month,Day,Year,AvgTemperature
+                    Region1,Country1,State1,City1,1,15,2020,10.0
+                    Region1,Country1,State1,City1,1,15,2021,20.0
+                    Region2,Country2,,City2,1,15,2020,-99.0
+                    """;
+
+    private BatchTestData() {
+    }
+
+    /**
+     * Writes the mock data to a file in the given directory and loads it.
+     *
+     * @param directory the directory to write the data file to; usually a JUnit {@code @TempDir}.
+     * @return a GlobalWeatherManager holding the mock data.
+     * @throws IOException if an error occurs during file creation.
+     */
+    static GlobalWeatherManager createManager(Path directory) throws IOException {
+        Path sampleFile = Files.writeString(directory.resolve("sample.csv"), CSV);
+        return new GlobalWeatherManager(sampleFile.toFile());
+    }
+}
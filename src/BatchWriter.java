@@ -0,0 +1,114 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Writes batch query results as CSV or JSON. Each result is flushed as soon as it is
+ * written so that results stream out while later queries are still running.
+ * <p>
+ * CSV output has a header line followed by one line per result. JSON output is a single
+ * array with one object per result.
+ */
+public class BatchWriter {
+
+    /**
+     * Supported output formats.
+     */
+    public enum Format { CSV, JSON }
+
+    private final Writer writer;
+    private final Format format;
+    private boolean first = true;
+
+    /**
+     * Constructs a BatchWriter that writes to the given writer.
+     *
+     * @param writer the output writer; not closed by this class.
+     * @param format the output format.
+     */
+    public BatchWriter(Writer writer, Format format) {
+        this.writer = writer;
+        this.format = format;
+    }
+
+    /**
+     * Writes the start of the output.
+     *
+     * @throws IOException if the output cannot be written.
+     */
+    public void writeHeader() throws IOException {
+        writer.write(format == Format.CSV ? "line,query,status,result,millis\n" : "[\n");
+    }
+
+    /**
+     * Writes a single query result and flushes it.
+     *
+     * @param result the result to write.
+     * @throws IOException if the output cannot be written.
+     */
+    public void write(BatchResult result) throws IOException {
+        String elapsed = String.format(Locale.ROOT, "%.3f", result.nanos() / 1_000_000.0);
+        if (format == Format.CSV) {
+            writer.write(result.lineNumber() + "," + csv(result.query()) + ","
+                    + result.status() + "," + csv(result.result()) + "," + elapsed + "\n");
+        } else {
+            writer.write((first ? "  " : ",\n  ")
+                    + "{\"line\": " + result.lineNumber()
+                    + ", \"query\": " + json(result.query())
+                    + ", \"status\": " + json(result.status())
+                    + ", \"result\": " + json(result.result())
+                    + ", \"millis\": " + elapsed + "}");
+        }
+        first = false;
+        writer.flush();
+    }
+
+    /**
+     * Writes the end of the output and flushes it.
+     *
+     * @throws IOException if the output cannot be written.
+     */
+    public void writeFooter() throws IOException {
+        if (format == Format.JSON) {
+            writer.write(first ? "]\n" : "\n]\n");
+        }
+        writer.flush();
+    }
+
+    /**
+     * Quotes a value for a CSV field.
+     *
+     * @param value the value to quote.
+     * @return the quoted value.
+     */
+    static String csv(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Quotes a value as a JSON string.
+     *
+     * @param value the value to quote.
+     * @return the quoted value.
+     */
+    static String json(String value) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+}
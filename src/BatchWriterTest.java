@@ -0,0 +1,123 @@
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.*;
+
+/**
+ * Unit tests for the {@code BatchWriter} class.
+ * This class verifies CSV quoting, JSON escaping and the layout of both output formats.
+ */
+public class BatchWriterTest {
+
+    /**
+     * Validates that {@code BatchWriter#csv(String)} quotes values and doubles embedded quotes.
+     */
+    @Test
+    void testCsvQuoting() {
+        assertEquals("\"a,b\"", BatchWriter.csv("a,b"), "Values with commas should be quoted.");
+        assertEquals("\"say \"\"hi\"\"\"", BatchWriter.csv("say \"hi\""), "Embedded quotes should be doubled.");
+        assertEquals("\"\"", BatchWriter.csv(""), "Empty values should be written as an empty quoted field.");
+    }
+
+    /**
+     * Ensures that values escaped by {@code BatchWriter#json(String)} decode back to the original text.
+     */
+    @Test
+    void testJsonRoundTrip() {
+        String value = "quote\" backslash\\ newline\n return\r tab\t bell\u0007 end";
+        String quoted = BatchWriter.json(value);
+
+        for (char c : quoted.toCharArray()) {
+            assertTrue(c >= 0x20, "Control characters should be escaped.");
+        }
+        assertEquals(value, unquote(quoted), "Escaped values should decode back to the original text.");
+    }
+
+    /**
+     * Checks the CSV header and row layout.
+     *
+     * @throws IOException if an error occurs while writing.
+     */
+    @Test
+    void testCsvLayout() throws IOException {
+        StringWriter out = new StringWriter();
+        BatchWriter writer = new BatchWriter(out, BatchWriter.Format.CSV);
+        writer.writeHeader();
+        writer.write(result(3, "stats,US,Maine,Caribou", "ok", "count=1"));
+        writer.write(result(4, "date,13,2,US,Maine,Caribou", "error", "Invalid \"month\""));
+        writer.writeFooter();
+
+        assertEquals("line,query,status,result,millis\n"
+                + "3,\"stats,US,Maine,Caribou\",ok,\"count=1\",1.500\n"
+                + "4,\"date,13,2,US,Maine,Caribou\",error,\"Invalid \"\"month\"\"\",1.500\n", out.toString());
+    }
+
+    /**
+     * Checks that JSON results are separated by commas and enclosed in a single array.
+     *
+     * @throws IOException if an error occurs while writing.
+     */
+    @Test
+    void testJsonLayout() throws IOException {
+        StringWriter out = new StringWriter();
+        BatchWriter writer = new BatchWriter(out, BatchWriter.Format.JSON);
+        writer.writeHeader();
+        writer.write(result(1, "date,1,2,France,,Paris", "ok", "1995:10.0"));
+        writer.write(result(2, "stats,US,,Nowhere", "not_found", ""));
+        writer.writeFooter();
+
+        assertEquals("[\n"
+                + "  {\"line\": 1, \"query\": \"date,1,2,France,,Paris\", \"status\": \"ok\", \"result\": \"1995:10.0\", \"millis\": 1.500},\n"
+                + "  {\"line\": 2, \"query\": \"stats,US,,Nowhere\", \"status\": \"not_found\", \"result\": \"\", \"millis\": 1.500}\n"
+                + "]\n", out.toString());
+    }
+
+    /**
+     * Confirms that a run with no queries still writes a valid JSON array.
+     *
+     * @throws IOException if an error occurs while writing.
+     */
+    @Test
+    void testEmptyJson() throws IOException {
+        StringWriter out = new StringWriter();
+        BatchWriter writer = new BatchWriter(out, BatchWriter.Format.JSON);
+        writer.writeHeader();
+        writer.writeFooter();
+        assertEquals("[\n]\n", out.toString());
+    }
+
+    /**
+     * Creates a result taking 1.5 ms for the given query text.
+     */
+    private static BatchResult result(int line, String text, String status, String value) {
+        return new BatchResult(line, text, status, value, 1_500_000);
+    }
+
+    /**
+     * Decodes a JSON string literal.
+     */
+    private static String unquote(String quoted) {
+        assertTrue(quoted.startsWith("\"") && quoted.endsWith("\""), "JSON strings should be quoted.");
+        StringBuilder builder = new StringBuilder();
+        for (int i = 1; i < quoted.length() - 1; i++) {
+            char c = quoted.charAt(i);
+            assertNotEquals('"', c, "Quotes inside JSON strings should be escaped.");
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            char escaped = quoted.charAt(++i);
+            switch (escaped) {
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'u' -> {
+                    builder.append((char) Integer.parseInt(quoted.substring(i + 1, i + 5), 16));
+                    i += 4;
+                }
+                default -> builder.append(escaped);
+            }
+        }
+        return builder.toString();
+    }
+
+}
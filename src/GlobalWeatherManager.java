@@ -1,4 +1,5 @@
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.io.*;
 
 /**
@@ -8,7 +9,28 @@ import java.io.*;
  * for temperature trends.
  */
 public class GlobalWeatherManager implements GlobalWeatherManagerInterface, Iterable<WeatherReading>  {
+    /**
+     * Number of city lookups answered by scanning every reading before the city index is built.
+     * A single scan is much cheaper than building the index, so runs that only look up a city
+     * or two never pay for it.
+     */
+    static final int CITY_INDEX_THRESHOLD = 3;
+
     private final List<WeatherReading> weatherReadings;
+    private final AtomicInteger cityLookups = new AtomicInteger();
+
+    /**
+     * First and last reading index for each country/state/city, built by {@link #buildCityIndex()}
+     * either on request or once more than {@link #CITY_INDEX_THRESHOLD} city lookups have been made,
+     * or loaded from a {@link ReadingsArchive}.
+     */
+    private volatile Map<String, int[]> cityIndex;
+
+    /**
+     * First and last reading index for each country/city across all states, used when a
+     * city lookup is made without a state.
+     */
+    private volatile Map<String, int[]> cityAnyStateIndex;
 
     /**
      * Constructs a GlobalWeatherManager and initializes it with weather data
@@ -20,19 +42,26 @@ public class GlobalWeatherManager implements GlobalWeatherManagerInterface, Iter
      */
     public GlobalWeatherManager(File file) throws FileNotFoundException {
         weatherReadings = new ArrayList<>();
-        try (Scanner scanner = new Scanner(file)) {
-            if (scanner.hasNext()) {
-                scanner.nextLine();
-            }
-            while (scanner.hasNext()) {
-                String line = scanner.nextLine();
+        // Readings for a city share one String per name, which saves memory and makes the city
+        // comparisons in getCityListStats mostly reference checks.
+        Map<String, String> names = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file)), 1 << 16)) {
+            String line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
                 String[] parts = line.split(",");
+                if (parts.length < 8) {
+                    System.err.println("Error parsing line: " + line);
+                    continue;
+                }
                 try {
                     WeatherReading reading = new WeatherReading(
-                            parts[0],
-                            parts[1],
-                            parts[2],
-                            parts[3],
+                            shared(names, parts[0]),
+                            shared(names, parts[1]),
+                            shared(names, parts[2]),
+                            shared(names, parts[3]),
                             Integer.parseInt(parts[4]),
                             Integer.parseInt(parts[5]),
                             Integer.parseInt(parts[6]),
@@ -40,12 +69,78 @@ public class GlobalWeatherManager implements GlobalWeatherManagerInterface, Iter
                     );
                     weatherReadings.add(reading);
                 } catch (NumberFormatException e) {
-                    System.out.println("Error parsing line: " + line);
+                    System.err.println("Error parsing line: " + line);
                 }
             }
+        } catch (FileNotFoundException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
+    /**
+     * Constructs a GlobalWeatherManager from readings and city index ranges read from a
+     * {@link ReadingsArchive}.
+     *
+     * @param readings   The readings, in data file order.
+     * @param cityRanges The first and last reading index of each country/state/city.
+     */
+    GlobalWeatherManager(List<WeatherReading> readings, List<int[]> cityRanges) {
+        weatherReadings = readings;
+        Map<String, int[]> byState = new HashMap<>();
+        Map<String, int[]> anyState = new HashMap<>();
+        for (int[] range : cityRanges) {
+            WeatherReading first = weatherReadings.get(range[0]);
+            byState.put(cityKey(first.country(), first.state(), first.city()), range);
+            int[] merged = rangeFor(anyState, cityKey(first.country(), "", first.city()), range[0]);
+            merged[0] = Math.min(merged[0], range[0]);
+            merged[1] = Math.max(merged[1], range[1]);
+        }
+        cityAnyStateIndex = anyState;
+        cityIndex = byState;
+    }
+
+    /**
+     * Loads weather data using a warm archive to skip parsing the data file. If the archive
+     * was built from the current version of the data file, the readings and city index are read
+     * from it. Otherwise the data file is parsed, the city index is built, and the archive is
+     * rewritten for the next run.
+     *
+     * @param file        A {@link File} object pointing to the file containing weather data.
+     * @param archiveFile The archive file; created if it does not exist.
+     * @return A GlobalWeatherManager holding the weather data, with its city index built.
+     * @throws FileNotFoundException if the provided data file does not exist.
+     */
+    public static GlobalWeatherManager load(File file, File archiveFile) throws FileNotFoundException {
+        ReadingsArchive.Stamp stamp = ReadingsArchive.Stamp.of(file);
+        GlobalWeatherManager manager = ReadingsArchive.read(archiveFile, stamp);
+        if (manager != null) {
+            return manager;
+        }
+
+        manager = new GlobalWeatherManager(file);
+        manager.buildCityIndex();
+        try {
+            ReadingsArchive.write(archiveFile, stamp, manager);
+        } catch (IOException e) {
+            System.err.println("Could not write archive " + archiveFile + ": " + e.getMessage());
+        }
+        return manager;
+    }
+
+    /**
+     * Returns the shared instance of a name read from the data file.
+     *
+     * @param names The names read so far.
+     * @param name  A name read from the data file.
+     * @return The first equal name read, or {@code name} if it has not been read before.
+     */
+    private static String shared(Map<String, String> names, String name) {
+        String existing = names.putIfAbsent(name, name);
+        return existing != null ? existing : name;
+    }
+
     /**
      * Returns the number of weather readings managed by this instance.
      *
@@ -129,34 +224,135 @@ public class GlobalWeatherManager implements GlobalWeatherManagerInterface, Iter
         final String searchState = state != null ? state.trim() : "";
         final String searchCity = city != null ? city.trim() : "";
 
+        int[] range;
+        if (cityIndex != null || cityLookups.incrementAndGet() > CITY_INDEX_THRESHOLD) {
+            buildCityIndex();
+            range = searchState.isEmpty()
+                    ? cityAnyStateIndex.get(cityKey(searchCountry, "", searchCity))
+                    : cityIndex.get(cityKey(searchCountry, searchState, searchCity));
+        } else {
+            range = scanCityRange(searchCountry, searchState, searchCity);
+        }
+        if (range == null) {
+            return null;
+        }
 
+        int startIndex = range[0];
+        int endIndex = range[1];
+        int count = endIndex - startIndex + 1;
+        Set<Integer> uniqueYears = new HashSet<>();
+        for (int i = startIndex; i <= endIndex; i++) {
+            uniqueYears.add(weatherReadings.get(i).year());
+        }
+
+        return new CityListStats(startIndex, count, uniqueYears.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Finds the first and last index of the readings for a city by scanning every reading.
+     *
+     * @param country The country of the city.
+     * @param state   The state of the city, or an empty string for any state.
+     * @param city    The city.
+     * @return The first and last reading index, or null if no readings are found.
+     */
+    private int[] scanCityRange(String country, String state, String city) {
         int startIndex = -1;
         int endIndex = -1;
         for (int i = 0; i < weatherReadings.size(); i++) {
             WeatherReading current = weatherReadings.get(i);
-            if (current.country().equals(searchCountry) &&
-                    (searchState.isEmpty() || current.state().equals(searchState)) &&
-                    current.city().equals(searchCity)) {
+            if (current.country().equals(country) &&
+                    (state.isEmpty() || current.state().equals(state)) &&
+                    current.city().equals(city)) {
                 if (startIndex == -1) {
                     startIndex = i;
                 }
                 endIndex = i;
             }
         }
+        return startIndex == -1 ? null : new int[] {startIndex, endIndex};
+    }
 
-        if (startIndex == -1) {
-            return null;
+    /**
+     * Builds the city indexes used by {@link #getCityListStats(String, String, String)} if they
+     * have not been built yet. Each entry holds the first and last index of the readings for that
+     * city, matching the range a full scan of the readings would find. Building the index costs
+     * about as much as a few scans, so callers that know they will make many city lookups can
+     * build it up front; otherwise it is built once repeated lookups make it worthwhile.
+     */
+    public void buildCityIndex() {
+        if (cityIndex != null) {
+            return;
         }
-
-        int count = endIndex - startIndex + 1;
-        Set<Integer> uniqueYears = new HashSet<>();
-        for (int i = startIndex; i <= endIndex; i++) {
-            uniqueYears.add(weatherReadings.get(i).year());
+        synchronized (this) {
+            if (cityIndex != null) {
+                return;
+            }
+            Map<String, int[]> byState = new HashMap<>();
+            Map<String, int[]> anyState = new HashMap<>();
+            WeatherReading previous = null;
+            int[] byStateRange = null;
+            int[] anyStateRange = null;
+            for (int i = 0; i < weatherReadings.size(); i++) {
+                WeatherReading current = weatherReadings.get(i);
+                // Readings for a city are usually contiguous, so only look up the maps when the city changes.
+                if (previous == null || !current.city().equals(previous.city())
+                        || !current.state().equals(previous.state())
+                        || !current.country().equals(previous.country())) {
+                    byStateRange = rangeFor(byState, cityKey(current.country(), current.state(), current.city()), i);
+                    anyStateRange = rangeFor(anyState, cityKey(current.country(), "", current.city()), i);
+                    previous = current;
+                }
+                byStateRange[1] = i;
+                anyStateRange[1] = i;
+            }
+            cityAnyStateIndex = anyState;
+            cityIndex = byState;
         }
+    }
 
-        return new CityListStats(startIndex, count, uniqueYears.stream().mapToInt(Integer::intValue).toArray());
+    /**
+     * Returns the first and last reading index of each country/state/city, building the city
+     * index if needed.
+     *
+     * @return The city index ranges.
+     */
+    Collection<int[]> cityRanges() {
+        buildCityIndex();
+        return Collections.unmodifiableCollection(cityIndex.values());
+    }
+
+    /**
+     * Returns the index range stored under the given key, adding one starting at the given
+     * reading index if there is none.
+     *
+     * @param index The city index.
+     * @param key   The city key.
+     * @param i     The index of a reading for that city.
+     * @return The first and last reading index stored for the key.
+     */
+    private static int[] rangeFor(Map<String, int[]> index, String key, int i) {
+        int[] range = index.get(key);
+        if (range == null) {
+            range = new int[] {i, i};
+            index.put(key, range);
+        }
+        return range;
     }
 
+    /**
+     * Builds the key used to look up a city in the city indexes.
+     *
+     * @param country The country of the city.
+     * @param state   The state of the city, or an empty string for any state.
+     * @param city    The city.
+     * @return The index key.
+     */
+    private static String cityKey(String country, String state, String city) {
+        // A StringBuilder avoids bootstrapping invokedynamic string concatenation, which costs a cold JVM tens of milliseconds.
+        return new StringBuilder(country.length() + state.length() + city.length() + 2)
+                .append(country).append('\0').append(state).append('\0').append(city).toString();
+    }
 
     /**
      * Provides an iterator over the weather readings managed by this instance.
@@ -91,6 +91,39 @@ public class GlobalWeatherManagerTest {
         assertEquals(0, stats.startingIndex(), "The start index of readings for the specified city should be correct.");
     }
 
+    /**
+     * Tests that {@code GlobalWeatherManager#getCityListStats(String, String, String)} matches any state when
+     * no state is given, and returns the same result on repeated lookups.
+     */
+    @Test
+    void testCityListStatsWithoutState() {
+        CityListStats stats = manager.getCityListStats("Country1", "", "City1");
+
+        assertNotNull(stats, "CityListStats should match the city in any state when no state is given.");
+        assertEquals(0, stats.startingIndex(), "The start index of readings for the specified city should be correct.");
+        assertEquals(1, manager.getCityListStats("Country2", null, "City2").startingIndex(), "A null state should match any state.");
+        assertNull(manager.getCityListStats("Country1", "State2", "City1"), "A city in a different state should not be found.");
+        assertArrayEquals(stats.years(), manager.getCityListStats("Country1", "", "City1").years(), "Repeated lookups should return the same stats.");
+    }
+
+    /**
+     * Ensures that lookups made after the city index is built return the same stats as lookups
+     * that scan the readings.
+     */
+    @Test
+    void testCityListStatsWithIndex() {
+        CityListStats scanned = manager.getCityListStats("Country2", "", "City2");
+        for (int i = 0; i < GlobalWeatherManager.CITY_INDEX_THRESHOLD; i++) {
+            manager.getCityListStats("Country1", "State1", "City1");
+        }
+        CityListStats indexed = manager.getCityListStats("Country2", "", "City2");
+
+        assertEquals(scanned.startingIndex(), indexed.startingIndex(), "The start index should not depend on the index.");
+        assertEquals(scanned.count(), indexed.count(), "The count should not depend on the index.");
+        assertArrayEquals(scanned.years(), indexed.years(), "The years should not depend on the index.");
+        assertNull(manager.getCityListStats("Country1", "State2", "City1"), "A city in a different state should not be found.");
+    }
+
     /**
      * Assesses the {@code GlobalWeatherManager#iterator()} method for its ability to iterate over weather readings correctly.
      */
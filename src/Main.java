@@ -1,125 +1,263 @@
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.Arrays;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
- * Main class for managing and displaying weather data.
- * This class provides functionalities to initialize a weather data manager from a file,
- * display specific weather readings, statistics for a particular city, and demonstrate
- * the calculation of temperature trend analysis using linear regression.
+ * Command-line batch runner for weather data queries.
+ * The data file is loaded once, then every query in the query file is run across a
+ * thread pool and the results are written, in query file order, as CSV or JSON.
+ * Timing for the load, each query, and the whole run is printed to standard error so
+ * that standard output can be redirected to a results file.
+ * <p>
+ * Usage: {@code java Main <data-file> <query-file> [--threads N] [--format csv|json] [--output FILE] [--archive FILE]}
+ * <p>
+ * With {@code --archive}, the parsed readings and city index are kept in a warm archive file
+ * so that later runs against the same data file skip parsing it; see {@link ReadingsArchive}.
+ * <p>
+ * See {@link BatchQuery} for the query file format and {@link BatchWriter} for the output formats.
  */
 public class Main {
     /**
-     * File path for the weather data CSV file.
+     * Usage text printed when the command line arguments are invalid.
      */
-    private static final String FILE_PATH = "C:\\Users\\samue\\OneDrive\\Desktop\\Proj02\\city_temperature.csv";
+    private static final String USAGE =
+            "Usage: java Main <data-file> <query-file> [--threads N] [--format csv|json] [--output FILE] [--archive FILE]";
 
     /**
-     * The main method to run the application.
-     * @param args Command line arguments (not used).
+     * Options read from the command line.
+     *
+     * @param dataFile    the weather data CSV file.
+     * @param queryFile   the file of queries, one per line.
+     * @param outputFile  the file to write results to, or {@code null} for standard output.
+     * @param archiveFile the warm archive of the data file, or {@code null} to always parse the data file.
+     * @param threads     the number of threads used to run queries.
+     * @param format      the output format.
      */
-    public static void main(String[] args) {
-        GlobalWeatherManager manager = initializeWeatherManagerFromFile();
-
-        if (manager == null) {
-            System.out.println("Initialization failed. Exiting program...");
-            return;
-        }
-
-        System.out.println("\nTotal Reading Count: " + manager.getReadingCount());
-        displayReadingAtIndex(manager);
-        displayFirstNReadings(manager);
-        displayReadingsOnDate(manager);
-        displayCityStats(manager);
-        displayTemperatureRegressionSlope(manager);
-        demonstrateCalcLinearRegressionSlope(manager);
+    record Options(File dataFile, File queryFile, File outputFile, File archiveFile, int threads,
+                   BatchWriter.Format format) {
     }
 
     /**
-     * Initializes the GlobalWeatherManager using data from a specified file path.
+     * A query line read from the query file, before it is parsed.
      *
-     * @return An instance of GlobalWeatherManager or {@code null} if the file was not found.
+     * @param lineNumber the line of the query file.
+     * @param text       the text of the line.
+     */
+    record QueryLine(int lineNumber, String text) {
+    }
+
+    /**
+     * The main method to run the application.
+     * @param args Command line arguments; see {@link #USAGE}.
      */
-    private static GlobalWeatherManager initializeWeatherManagerFromFile() {
+    public static void main(String[] args) {
+        Options options = null;
         try {
-            return new GlobalWeatherManager(new File(Main.FILE_PATH));
-        } catch (FileNotFoundException e) {
-            System.out.println("File not found. Exiting gracefully...");
-            return null;
+            options = parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        try {
+            System.exit(run(options));
+        } catch (IOException e) {
+            System.err.println("Batch run failed: " + e.getMessage());
+            System.exit(1);
         }
     }
 
     /**
-     * Displays a specific weather reading from the GlobalWeatherManager based on the index.
+     * Parses the command line arguments.
      *
-     * @param manager The GlobalWeatherManager instance.
+     * @param args the command line arguments.
+     * @return the parsed options.
+     * @throws IllegalArgumentException if an argument is missing, unexpected or invalid.
      */
-    private static void displayReadingAtIndex(GlobalWeatherManager manager) {
-        System.out.println("Reading at index " + 2885063 + ": " + manager.getReading(2000000));
+    static Options parseArguments(String[] args) {
+        File dataFile = null;
+        File queryFile = null;
+        File outputFile = null;
+        File archiveFile = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        BatchWriter.Format format = BatchWriter.Format.CSV;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> {
+                    String value = optionValue(args, i++);
+                    try {
+                        threads = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid thread count: " + value);
+                    }
+                }
+                case "--format" -> {
+                    String value = optionValue(args, i++);
+                    try {
+                        format = BatchWriter.Format.valueOf(value.toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Unknown format: " + value);
+                    }
+                }
+                case "--output" -> outputFile = new File(optionValue(args, i++));
+                case "--archive" -> archiveFile = new File(optionValue(args, i++));
+                default -> {
+                    if (dataFile == null) {
+                        dataFile = new File(args[i]);
+                    } else if (queryFile == null) {
+                        queryFile = new File(args[i]);
+                    } else {
+                        throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                    }
+                }
+            }
+        }
+        if (dataFile == null || queryFile == null) {
+            throw new IllegalArgumentException("A data file and a query file are required.");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1.");
+        }
+        return new Options(dataFile, queryFile, outputFile, archiveFile, threads, format);
     }
 
     /**
-     * Displays the first 'N' weather readings from the GlobalWeatherManager.
+     * Returns the value following a command line option.
      *
-     * @param manager The GlobalWeatherManager instance.
+     * @param args  the command line arguments.
+     * @param index the index of the option.
+     * @return the option's value.
+     * @throws IllegalArgumentException if the option is the last argument.
      */
-    private static void displayFirstNReadings(GlobalWeatherManager manager) {
-        System.out.println("\nFirst " + 10 + " readings:");
-        for (WeatherReading reading : manager.getReadings(0, 10)) {
-            System.out.println(reading);
+    private static String optionValue(String[] args, int index) {
+        if (index + 1 >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[index]);
         }
+        return args[index + 1];
     }
 
     /**
-     * Displays weather readings on a specified date.
+     * Loads the data file, runs every query and writes the results.
      *
-     * @param manager The GlobalWeatherManager instance.
+     * @param options the command line options.
+     * @return the process exit code; non-zero if any query failed.
+     * @throws IOException if a file cannot be read or written.
      */
-    private static void displayReadingsOnDate(GlobalWeatherManager manager) {
-        System.out.println("\nReadings on " + 1 + "/" + 2 + " from different years:");
-        // Modified to reflect new getReadings method
-        WeatherReading[] readings = manager.getReadings(0, manager.getReadingCount(), 1, 2);
-        for (WeatherReading reading : readings) {
-            System.out.println(reading);
+    private static int run(Options options) throws IOException {
+        long runStart = System.nanoTime();
+        List<QueryLine> queries = readQueries(options.queryFile());
+
+        long loadStart = System.nanoTime();
+        GlobalWeatherManager manager = options.archiveFile() == null
+                ? new GlobalWeatherManager(options.dataFile())
+                : GlobalWeatherManager.load(options.dataFile(), options.archiveFile());
+        System.err.printf("Loaded %d readings in %.3f ms%n", manager.getReadingCount(), millis(System.nanoTime() - loadStart));
+
+        int exitCode;
+        try (Writer writer = options.outputFile() == null
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(options.outputFile().toPath(), StandardCharsets.UTF_8)) {
+            exitCode = runQueries(queries, manager, options.threads(), new BatchWriter(writer, options.format()));
         }
+
+        System.err.printf("Ran %d queries on %d threads in %.3f ms total%n",
+                queries.size(), options.threads(), millis(System.nanoTime() - runStart));
+        return exitCode;
     }
 
     /**
-     * Displays statistical information about a specific city.
+     * Parses and runs the queries across a thread pool and writes the results in query order
+     * as each one becomes available. Lines that cannot be parsed are reported as errors.
      *
-     * @param manager The GlobalWeatherManager instance.
+     * @param queries the queries to run.
+     * @param manager the manager holding the loaded weather data.
+     * @param threads the number of threads used to run queries.
+     * @param output  the writer for the results.
+     * @return the process exit code; 0 if every query succeeded or found no city, 1 if any query failed.
+     * @throws IOException if the results cannot be written.
      */
-    private static void displayCityStats(GlobalWeatherManager manager) {
-        CityListStats stats = manager.getCityListStats("US", "Maine", "Caribou");
-        System.out.println("\nStats for " + "Caribou" + ", " + "Maine" + ", " + "US" + ":");
-        if (stats != null) {
-            System.out.println("Starting Index: " + stats.startingIndex());
-            System.out.println("Count of Readings: " + stats.count());
-            System.out.print("Years: " + String.join(", ", Arrays.stream(stats.years())
-                    .mapToObj(String::valueOf)
-                    .toArray(String[]::new)));
-            System.out.println();
-        } else {
-            System.out.println("City data is not available.");
+    static int runQueries(List<QueryLine> queries, GlobalWeatherManager manager, int threads, BatchWriter output)
+            throws IOException {
+        if (queries.size() > GlobalWeatherManager.CITY_INDEX_THRESHOLD) {
+            // Build the index once up front rather than having the first lookups on each thread scan every reading.
+            long indexStart = System.nanoTime();
+            manager.buildCityIndex();
+            System.err.printf("Built city index for %d queries in %.3f ms%n", queries.size(), millis(System.nanoTime() - indexStart));
         }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        int failures = 0;
+        try {
+            List<Future<BatchResult>> futures = new ArrayList<>(queries.size());
+            for (QueryLine query : queries) {
+                futures.add(pool.submit(() -> BatchResult.run(query.lineNumber(), query.text(), manager)));
+            }
+
+            output.writeHeader();
+            for (Future<BatchResult> future : futures) {
+                BatchResult result = future.get();
+                if (result.isError()) {
+                    failures++;
+                }
+                output.write(result);
+                System.err.printf("Query %d (%s): %.3f ms%n", result.lineNumber(),
+                        result.query(), millis(result.nanos()));
+            }
+            output.writeFooter();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for query results.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Query execution failed.", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        if (failures > 0) {
+            System.err.printf("%d of %d queries failed%n", failures, queries.size());
+        }
+        return failures == 0 ? 0 : 1;
     }
 
     /**
-     * Displays the slope of the linear regression line calculated for temperature trends.
-     * @param manager The GlobalWeatherManager instance.
+     * Reads the query file, skipping blank lines and lines starting with {@code #}.
+     *
+     * @param queryFile the file of queries.
+     * @return the query lines in file order.
+     * @throws IOException if the file cannot be read.
      */
-    private static void displayTemperatureRegressionSlope(GlobalWeatherManager manager) {
-        double slope = manager.getTemperatureLinearRegressionSlope(manager.getReadings(0, manager.getReadingCount()));
-        System.out.println("\nTemperature Linear Regression Slope: " + slope);
+    private static List<QueryLine> readQueries(File queryFile) throws IOException {
+        List<QueryLine> queries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(queryFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.trim().startsWith("#")) {
+                    continue;
+                }
+                queries.add(new QueryLine(lineNumber, line));
+            }
+        }
+        return queries;
     }
 
     /**
-     * Demonstrates the calculation of the linear regression slope for a set of given data points.
-     * @param manager The GlobalWeatherManager instance.
+     * Converts nanoseconds to milliseconds.
+     *
+     * @param nanos a duration in nanoseconds.
+     * @return the duration in milliseconds.
      */
-    private static void demonstrateCalcLinearRegressionSlope(GlobalWeatherManager manager) {
-        Integer[] x = {2000, 2001, 2002, 2003};
-        Double[] y = {32.5, 33.0, 33.5, 34.0};
-        System.out.println("Linear Regression Slope for provided data: " + manager.calcLinearRegressionSlope(x, y));
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
     }
 }
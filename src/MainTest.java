@@ -0,0 +1,133 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.*;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for the {@code Main} batch runner.
+ * This class verifies command line parsing and that queries run on several threads are
+ * written in query file order with the correct statuses and exit code.
+ */
+public class MainTest {
+
+    @TempDir
+    Path tempDir;
+
+    private GlobalWeatherManager manager;
+
+    /**
+     * Prepares the testing environment before each test.
+     * Initializes the GlobalWeatherManager with the shared mock data, written to a temporary directory.
+     *
+     * @throws IOException if an error occurs during file creation.
+     */
+    @BeforeEach
+    void initialize() throws IOException {
+        manager = BatchTestData.createManager(tempDir);
+    }
+
+    /**
+     * Validates that options and positional arguments are parsed in any order.
+     */
+    @Test
+    void testParseArguments() {
+        Main.Options options = Main.parseArguments(
+                new String[] {"--threads", "3", "data.csv", "--format", "json", "queries.txt", "--output", "out.json",
+                        "--archive", "data.archive"});
+
+        assertAll("Verification of the parsed options",
+                () -> assertEquals(new File("data.csv"), options.dataFile()),
+                () -> assertEquals(new File("queries.txt"), options.queryFile()),
+                () -> assertEquals(new File("out.json"), options.outputFile()),
+                () -> assertEquals(new File("data.archive"), options.archiveFile()),
+                () -> assertEquals(3, options.threads()),
+                () -> assertEquals(BatchWriter.Format.JSON, options.format())
+        );
+    }
+
+    /**
+     * Ensures that invalid command lines are rejected with a readable message.
+     */
+    @Test
+    void testParseInvalidArguments() {
+        IllegalArgumentException missing = assertThrows(IllegalArgumentException.class,
+                () -> Main.parseArguments(new String[] {"data.csv", "queries.txt", "--threads"}));
+        assertEquals("Missing value for --threads", missing.getMessage(), "A trailing option should name the option.");
+
+        assertThrows(IllegalArgumentException.class, () -> Main.parseArguments(new String[] {"data.csv"}), "The query file should be required.");
+        assertThrows(IllegalArgumentException.class, () -> Main.parseArguments(new String[] {"a", "b", "--threads", "0"}), "The thread count should be at least 1.");
+        assertThrows(IllegalArgumentException.class, () -> Main.parseArguments(new String[] {"a", "b", "--format", "xml"}), "Unknown formats should be rejected.");
+        assertThrows(IllegalArgumentException.class, () -> Main.parseArguments(new String[] {"a", "b", "c"}), "Extra arguments should be rejected.");
+    }
+
+    /**
+     * Tests that results from a multi-threaded run are written in query line order.
+     *
+     * @throws IOException if an error occurs while writing.
+     */
+    @Test
+    void testRunQueriesKeepsLineOrder() throws IOException {
+        List<Main.QueryLine> queries = new ArrayList<>();
+        for (int line = 1; line <= 200; line++) {
+            queries.add(new Main.QueryLine(line, line % 2 == 0 ? "date,1,15,Country1,State1,City1" : "stats,Country1,State1,City1"));
+        }
+        StringWriter out = new StringWriter();
+
+        int exitCode = Main.runQueries(queries, manager, 8, new BatchWriter(out, BatchWriter.Format.CSV));
+
+        assertEquals(0, exitCode, "A run without errors should exit with 0.");
+        String[] lines = out.toString().split("\n");
+        assertEquals(201, lines.length, "There should be a header and one line per query.");
+        for (int line = 1; line <= 200; line++) {
+            assertTrue(lines[line].startsWith(line + ","), "Results should be written in query line order.");
+        }
+    }
+
+    /**
+     * Checks the statuses and exit code when some queries fail or find nothing.
+     *
+     * @throws IOException if an error occurs while writing.
+     */
+    @Test
+    void testRunQueriesStatusesAndExitCode() throws IOException {
+        StringWriter out = new StringWriter();
+        int notFoundExit = Main.runQueries(List.of(new Main.QueryLine(1, "stats,Country9,,City9")), manager, 2,
+                new BatchWriter(out, BatchWriter.Format.CSV));
+        assertEquals(0, notFoundExit, "A city that is not found should not fail the run.");
+        assertTrue(out.toString().contains("\n1,\"stats,Country9,,City9\",not_found,\"\","));
+
+        out = new StringWriter();
+        int errorExit = Main.runQueries(List.of(
+                new Main.QueryLine(1, "slope,1,15,Country1,State1,City1"),
+                new Main.QueryLine(2, "date,13,15,Country1,State1,City1")), manager, 2, new BatchWriter(out, BatchWriter.Format.CSV));
+        assertEquals(1, errorExit, "A failed query should make the run exit with 1.");
+        assertTrue(out.toString().contains("\n1,\"slope,1,15,Country1,State1,City1\",ok,\"10.0\","));
+        assertTrue(out.toString().contains("\n2,\"date,13,15,Country1,State1,City1\",error,\"Invalid month value."));
+    }
+
+    /**
+     * Ensures that lines which cannot be parsed are reported as errors without stopping the run.
+     *
+     * @throws IOException if an error occurs while writing.
+     */
+    @Test
+    void testRunQueriesReportsUnparsableLines() throws IOException {
+        StringWriter out = new StringWriter();
+        int exitCode = Main.runQueries(List.of(
+                new Main.QueryLine(1, "average,1,15"),
+                new Main.QueryLine(2, "stats,Country1"),
+                new Main.QueryLine(3, "stats,Country1,State1,City1")), manager, 2,
+                new BatchWriter(out, BatchWriter.Format.CSV));
+
+        assertEquals(1, exitCode, "Unparsable lines should make the run exit with 1.");
+        String[] lines = out.toString().split("\n");
+        assertEquals(4, lines.length, "Every line should have a result.");
+        assertTrue(lines[1].startsWith("1,\"average,1,15\",error,\"Unknown query type on line 1"));
+        assertTrue(lines[2].startsWith("2,\"stats,Country1\",error,\"Wrong number of arguments on line 2"));
+        assertTrue(lines[3].startsWith("3,\"stats,Country1,State1,City1\",ok,"), "Later queries should still run.");
+    }
+
+}
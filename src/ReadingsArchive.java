@@ -0,0 +1,207 @@
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Reads and writes a binary snapshot of the readings in a weather data file, together with
+ * the city index ranges, so that short-lived runs can skip parsing the CSV file.
+ * <p>
+ * The archive records the size and last-modified time of the data file it was built from and
+ * is ignored once either changes. Locations (region, country, state and city) are stored once
+ * in a table and each reading refers to its location by number.
+ */
+public final class ReadingsArchive {
+    private static final int MAGIC = 0x57435341;
+    private static final int VERSION = 1;
+
+    private ReadingsArchive() {
+    }
+
+    /**
+     * The size and last-modified time of a data file, used to tell whether an archive is stale.
+     *
+     * @param size         the size of the data file, in bytes.
+     * @param lastModified the last-modified time of the data file, in milliseconds since the epoch.
+     */
+    record Stamp(long size, long lastModified) {
+
+        /**
+         * Reads the stamp of a data file.
+         *
+         * @param dataFile the data file.
+         * @return the stamp of the data file.
+         * @throws FileNotFoundException if the data file does not exist.
+         */
+        static Stamp of(File dataFile) throws FileNotFoundException {
+            if (!dataFile.isFile()) {
+                throw new FileNotFoundException(dataFile.getPath());
+            }
+            return new Stamp(dataFile.length(), dataFile.lastModified());
+        }
+    }
+
+    /**
+     * Reads an archive if it exists and was built from a data file with the given stamp.
+     *
+     * @param archiveFile the archive file.
+     * @param stamp       the stamp of the data file.
+     * @return a manager holding the archived readings and city index, or {@code null} if the
+     *         archive is missing, stale or unreadable.
+     */
+    static GlobalWeatherManager read(File archiveFile, Stamp stamp) {
+        if (!archiveFile.isFile()) {
+            return null;
+        }
+        try {
+            // Read into memory rather than mapping the file, since a mapped file cannot be replaced on Windows.
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(archiveFile.toPath()));
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                    || buffer.getLong() != stamp.size() || buffer.getLong() != stamp.lastModified()) {
+                return null;
+            }
+
+            String[] names = new String[buffer.getInt()];
+            for (int i = 0; i < names.length; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                names[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            String[][] locations = new String[buffer.getInt()][];
+            for (int i = 0; i < locations.length; i++) {
+                locations[i] = new String[] {names[buffer.getInt()], names[buffer.getInt()],
+                        names[buffer.getInt()], names[buffer.getInt()]};
+            }
+
+            int readingCount = buffer.getInt();
+            List<WeatherReading> readings = new ArrayList<>(readingCount);
+            for (int i = 0; i < readingCount; i++) {
+                String[] location = locations[buffer.getInt()];
+                readings.add(new WeatherReading(location[0], location[1], location[2], location[3],
+                        buffer.getShort(), buffer.getShort(), buffer.getShort(), buffer.getDouble()));
+            }
+
+            List<int[]> cityRanges = new ArrayList<>();
+            int rangeCount = buffer.getInt();
+            for (int i = 0; i < rangeCount; i++) {
+                int start = buffer.getInt();
+                int end = buffer.getInt();
+                if (start < 0 || start > end || end >= readingCount) {
+                    throw new IOException("Invalid city range " + start + "-" + end);
+                }
+                cityRanges.add(new int[] {start, end});
+            }
+            return new GlobalWeatherManager(readings, cityRanges);
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            System.err.println("Ignoring unreadable archive " + archiveFile + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes an archive of the manager's readings and city index. The archive is written to a
+     * temporary file and then moved into place, so concurrent runs never read a partial archive.
+     *
+     * @param archiveFile the archive file.
+     * @param stamp       the stamp of the data file the readings were read from.
+     * @param manager     the manager holding the readings.
+     * @throws IOException if the archive cannot be written, or a reading cannot be stored.
+     */
+    static void write(File archiveFile, Stamp stamp, GlobalWeatherManager manager) throws IOException {
+        Map<String, Integer> nameIds = new LinkedHashMap<>();
+        Map<List<String>, Integer> locationIds = new LinkedHashMap<>();
+        int[] readingLocations = new int[manager.getReadingCount()];
+        WeatherReading previous = null;
+        int previousLocation = -1;
+        for (int i = 0; i < readingLocations.length; i++) {
+            WeatherReading reading = manager.getReading(i);
+            if (previous == null || !sameLocation(previous, reading)) {
+                List<String> location = List.of(reading.region(), reading.country(), reading.state(), reading.city());
+                for (String name : location) {
+                    nameIds.putIfAbsent(name, nameIds.size());
+                }
+                previousLocation = locationIds.computeIfAbsent(location, key -> locationIds.size());
+                previous = reading;
+            }
+            readingLocations[i] = previousLocation;
+        }
+
+        Path target = archiveFile.toPath().toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(stamp.size());
+                out.writeLong(stamp.lastModified());
+
+                out.writeInt(nameIds.size());
+                for (String name : nameIds.keySet()) {
+                    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+
+                out.writeInt(locationIds.size());
+                for (List<String> location : locationIds.keySet()) {
+                    for (String name : location) {
+                        out.writeInt(nameIds.get(name));
+                    }
+                }
+
+                out.writeInt(readingLocations.length);
+                for (int i = 0; i < readingLocations.length; i++) {
+                    WeatherReading reading = manager.getReading(i);
+                    out.writeInt(readingLocations[i]);
+                    out.writeShort(toShort(reading.month()));
+                    out.writeShort(toShort(reading.day()));
+                    out.writeShort(toShort(reading.year()));
+                    out.writeDouble(reading.avgTemperature());
+                }
+
+                Collection<int[]> cityRanges = manager.cityRanges();
+                out.writeInt(cityRanges.size());
+                for (int[] range : cityRanges) {
+                    out.writeInt(range[0]);
+                    out.writeInt(range[1]);
+                }
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Returns whether two readings are for the same region, country, state and city.
+     *
+     * @param a a reading.
+     * @param b another reading.
+     * @return {@code true} if the locations are equal.
+     */
+    private static boolean sameLocation(WeatherReading a, WeatherReading b) {
+        return a.city().equals(b.city()) && a.state().equals(b.state())
+                && a.country().equals(b.country()) && a.region().equals(b.region());
+    }
+
+    /**
+     * Narrows a month, day or year to the size stored in the archive.
+     *
+     * @param value the value to store.
+     * @return the value as a short.
+     * @throws IOException if the value does not fit.
+     */
+    private static short toShort(int value) throws IOException {
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw new IOException("Value too large for archive: " + value);
+        }
+        return (short) value;
+    }
+}
@@ -0,0 +1,111 @@
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.*;
+import java.nio.file.*;
+import java.util.Arrays;
+
+/**
+ * Unit tests for the {@code ReadingsArchive} class and {@code GlobalWeatherManager#load(File, File)}.
+ * This class verifies that archived readings and city ranges match the parsed data file, and that
+ * stale or unreadable archives are ignored.
+ */
+public class ReadingsArchiveTest {
+
+    @TempDir
+    Path tempDir;
+
+    private File dataFile;
+    private File archiveFile;
+
+    /**
+     * Prepares the testing environment before each test.
+     * Writes a data file with one city name in two states, plus a city in another country.
+     *
+     * @throws IOException if an error occurs during file creation.
+     */
+    @BeforeEach
+    void initialize() throws IOException {
+        String mockData =
+                """
+                        Region,Country,State,City,Month,Day,Year,AvgTemperature
+                        Region1,Country1,State1,City1,1,15,2020,10.0
+                        Region1,Country1,State1,City1,1,15,2021,20.0
+                        Region1,Country1,State2,City1,1,15,2020,30.0
+                        Region2,Country2,,City2,1,15,2020,-99.0
+                        """;
+        dataFile = Files.writeString(tempDir.resolve("sample.csv"), mockData).toFile();
+        archiveFile = tempDir.resolve("sample.archive").toFile();
+    }
+
+    /**
+     * Validates that loading writes an archive, and that the archive holds the same readings and
+     * city stats as parsing the data file.
+     *
+     * @throws IOException if an error occurs while loading.
+     */
+    @Test
+    void testArchiveMatchesDataFile() throws IOException {
+        GlobalWeatherManager parsed = new GlobalWeatherManager(dataFile);
+        GlobalWeatherManager.load(dataFile, archiveFile);
+        assertTrue(archiveFile.isFile(), "Loading should write the archive.");
+
+        GlobalWeatherManager archived = ReadingsArchive.read(archiveFile, ReadingsArchive.Stamp.of(dataFile));
+        assertNotNull(archived, "A fresh archive should be read.");
+        assertEquals(parsed.getReadingCount(), archived.getReadingCount());
+        for (int i = 0; i < parsed.getReadingCount(); i++) {
+            assertEquals(parsed.getReading(i), archived.getReading(i), "Reading " + i + " should match.");
+            assertEquals(parsed.getReading(i).avgTemperature(), archived.getReading(i).avgTemperature());
+        }
+
+        String[][] cities = {{"Country1", "State1", "City1"}, {"Country1", "State2", "City1"},
+                {"Country1", "", "City1"}, {"Country2", "", "City2"}};
+        for (String[] city : cities) {
+            CityListStats expected = parsed.getCityListStats(city[0], city[1], city[2]);
+            CityListStats actual = archived.getCityListStats(city[0], city[1], city[2]);
+            assertEquals(expected.startingIndex(), actual.startingIndex(), "The start index should match for " + city[2]);
+            assertEquals(expected.count(), actual.count(), "The count should match for " + city[2]);
+        }
+        assertNull(archived.getCityListStats("Country1", "State3", "City1"), "Unknown cities should not be found.");
+    }
+
+    /**
+     * Ensures that an archive is ignored and rewritten once the data file changes.
+     *
+     * @throws IOException if an error occurs while loading.
+     */
+    @Test
+    void testStaleArchiveIsRebuilt() throws IOException {
+        GlobalWeatherManager.load(dataFile, archiveFile);
+        Files.writeString(dataFile.toPath(), "Region3,Country3,,City3,1,15,2020,5.0\n", StandardOpenOption.APPEND);
+        assertTrue(dataFile.setLastModified(dataFile.lastModified() + 1000));
+
+        assertNull(ReadingsArchive.read(archiveFile, ReadingsArchive.Stamp.of(dataFile)), "A stale archive should be ignored.");
+        assertEquals(5, GlobalWeatherManager.load(dataFile, archiveFile).getReadingCount(), "The data file should be parsed again.");
+        assertNotNull(ReadingsArchive.read(archiveFile, ReadingsArchive.Stamp.of(dataFile)), "The archive should be rewritten.");
+    }
+
+    /**
+     * Confirms that an unreadable archive falls back to parsing the data file.
+     *
+     * @throws IOException if an error occurs while loading.
+     */
+    @Test
+    void testCorruptArchiveIsIgnored() throws IOException {
+        GlobalWeatherManager.load(dataFile, archiveFile);
+        byte[] bytes = Files.readAllBytes(archiveFile.toPath());
+        Files.write(archiveFile.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertNull(ReadingsArchive.read(archiveFile, ReadingsArchive.Stamp.of(dataFile)), "A truncated archive should be ignored.");
+        assertEquals(4, GlobalWeatherManager.load(dataFile, archiveFile).getReadingCount(), "The data file should be parsed instead.");
+    }
+
+    /**
+     * Confirms that loading a missing data file still throws a FileNotFoundException.
+     */
+    @Test
+    void testLoadWithMissingDataFile() {
+        assertThrows(FileNotFoundException.class, () -> GlobalWeatherManager.load(new File(tempDir.toFile(), "missing.csv"), archiveFile));
+    }
+
+}
@@ -0,0 +1,53 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * Measures time-to-first-answer for a single {@code getCityListStats} lookup in a fresh JVM.
+ * The time is taken from JVM start, so it includes JVM and class loading as well as reading
+ * the data file, which is what a short-lived CLI run pays. Run it once per JVM and compare
+ * launches with and without the AppCDS archive and the warm archive; see
+ * {@code scripts/startup-benchmark.sh}.
+ * <p>
+ * Usage: {@code java StartupBenchmark <data-file> <country> <state> <city> [archive-file]}
+ */
+public class StartupBenchmark {
+
+    /**
+     * Loads the data file, looks up one city and prints the timings on a single line.
+     * @param args Command line arguments; the data file followed by the country, state and city,
+     *             and optionally a warm archive file to load the data through.
+     */
+    public static void main(String[] args) {
+        if (args.length != 4 && args.length != 5) {
+            System.err.println("Usage: java StartupBenchmark <data-file> <country> <state> <city> [archive-file]");
+            System.exit(2);
+        }
+
+        // Read the uptime first so that loading java.management is only counted once, in jvm-to-main-ms.
+        long uptimeAtMain = ManagementFactory.getRuntimeMXBean().getUptime();
+        long mainStart = System.nanoTime();
+        GlobalWeatherManager manager;
+        try {
+            manager = args.length == 5
+                    ? GlobalWeatherManager.load(new File(args[0]), new File(args[4]))
+                    : new GlobalWeatherManager(new File(args[0]));
+        } catch (FileNotFoundException e) {
+            System.err.println("File not found: " + args[0]);
+            System.exit(1);
+            return;
+        }
+        long loaded = System.nanoTime();
+        CityListStats stats = manager.getCityListStats(args[1], args[2], args[3]);
+        long answered = System.nanoTime();
+
+        System.out.printf(Locale.ROOT,
+                "jvm-to-main-ms=%d load-ms=%.3f query-ms=%.3f time-to-first-answer-ms=%.3f count=%d%n",
+                uptimeAtMain,
+                (loaded - mainStart) / 1_000_000.0,
+                (answered - loaded) / 1_000_000.0,
+                uptimeAtMain + (answered - mainStart) / 1_000_000.0,
+                stats == null ? 0 : stats.count());
+    }
+}